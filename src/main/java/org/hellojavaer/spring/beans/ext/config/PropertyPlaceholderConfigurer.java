@@ -17,9 +17,11 @@ package org.hellojavaer.spring.beans.ext.config;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -28,6 +30,8 @@ import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.core.io.Resource;
+import org.springframework.util.DefaultPropertiesPersister;
+import org.springframework.util.PropertiesPersister;
 
 /**
  * @author <a href="mailto:hellojavaer@gmail.com">zoukaiming</a>
@@ -35,16 +39,22 @@ import org.springframework.core.io.Resource;
 public class PropertyPlaceholderConfigurer extends org.springframework.beans.factory.config.PropertyPlaceholderConfigurer implements ApplicationContextAware {
 
     /** Logger available to subclasses */
-    protected final Log        logger                   = LogFactory.getLog(getClass());
+    protected final Log         logger                   = LogFactory.getLog(getClass());
 
-    private ApplicationContext applicationContext;
+    private ApplicationContext  applicationContext;
 
-    private boolean            resolvePlaceholderAtOnce = false;
+    private boolean             resolvePlaceholderAtOnce = false;
 
-    private static int         sequenceCount            = Integer.MIN_VALUE;
-    private int                sequence;
+    private static int          sequenceCount            = Integer.MIN_VALUE;
+    private int                 sequence;
 
-    private List<Resource>     locations;
+    private List<Resource>      locations;
+
+    private boolean             useSharedCache           = false;
+    private List<Resource>      loadLocations;
+    private String              fileEncoding;
+    private boolean             ignoreResourceNotFound   = false;
+    private PropertiesPersister propertiesPersister      = new DefaultPropertiesPersister();
 
     public PropertyPlaceholderConfigurer() {
         sequence = sequenceCount++;
@@ -55,6 +65,12 @@ public class PropertyPlaceholderConfigurer extends org.springframework.beans.fac
         this.locations = Arrays.asList(locations);
     }
 
+    @Override
+    public void setLocation(Resource location) {
+        super.setLocation(location);
+        this.loadLocations = Collections.singletonList(location);
+    }
+
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         this.applicationContext = applicationContext;
     }
@@ -67,10 +83,63 @@ public class PropertyPlaceholderConfigurer extends org.springframework.beans.fac
         this.resolvePlaceholderAtOnce = resolvePlaceholderAtOnce;
     }
 
+    /**
+     * reuse the parsed property files through the JVM-wide {@link SharedPropertiesCache} instead of re-parsing them for
+     * every application context, the files are still read to check their content has not changed
+     * @param useSharedCache
+     */
+    public void setUseSharedCache(boolean useSharedCache) {
+        this.useSharedCache = useSharedCache;
+    }
+
+    @Override
+    public void setFileEncoding(String encoding) {
+        super.setFileEncoding(encoding);
+        this.fileEncoding = encoding;
+    }
+
+    @Override
+    public void setIgnoreResourceNotFound(boolean ignoreResourceNotFound) {
+        super.setIgnoreResourceNotFound(ignoreResourceNotFound);
+        this.ignoreResourceNotFound = ignoreResourceNotFound;
+    }
+
+    @Override
+    public void setPropertiesPersister(PropertiesPersister propertiesPersister) {
+        super.setPropertiesPersister(propertiesPersister);
+        this.propertiesPersister = propertiesPersister != null ? propertiesPersister : new DefaultPropertiesPersister();
+    }
+
     protected List<Resource> getLocatons() throws IOException {
         return this.locations;
     }
 
+    @Override
+    protected void loadProperties(Properties props) throws IOException {
+        if (!useSharedCache || loadLocations == null) {
+            super.loadProperties(props);
+        } else {
+            SharedPropertiesCache cache = SharedPropertiesCache.getInstance();
+            for (Resource location : loadLocations) {
+                if (logger.isInfoEnabled()) {
+                    logger.info("Loading properties file from " + location);
+                }
+                try {
+                    props.putAll(cache.getProperties(location, fileEncoding, propertiesPersister));
+                } catch (IOException e) {
+                    if (ignoreResourceNotFound) {
+                        logger.warn("Could not load properties from " + location + ": " + e.getMessage());
+                    } else {
+                        throw e;
+                    }
+                }
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("shared properties cache " + cache.getStats());
+            }
+        }
+    }
+
     @Override
     public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
         if (resolvePlaceholderAtOnce) {
@@ -112,6 +181,7 @@ public class PropertyPlaceholderConfigurer extends org.springframework.beans.fac
                     for (Resource r : totalResources) {
                         logger.info(r);
                     }
+                    loadLocations = totalResources;
                     super.setLocations(totalResources.toArray(new Resource[totalResources.size()]));
                     super.postProcessBeanFactory(beanFactory);
                 } else {
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hellojavaer.spring.beans.ext.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.springframework.core.io.Resource;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.PropertiesPersister;
+
+/**
+ * JVM-wide LRU cache of parsed property files, shared by every {@link PropertyPlaceholderConfigurer} which enables
+ * {@link PropertyPlaceholderConfigurer#setUseSharedCache(boolean)}.
+ * <p>
+ * Resources are keyed by the md5 of their content, so every load still reads the resource but only parses it on a
+ * miss, and an edit is never hidden by a coarse file timestamp. Resources with the same content share one entry
+ * whatever their location (file system, classpath or jar). Cached values are immutable.
+ *
+ * @author <a href="mailto:hellojavaer@gmail.com">zoukaiming</a>
+ */
+public class SharedPropertiesCache {
+
+    private static final String                    XML_FILE_EXTENSION = ".xml";
+    private static final int                       DEFAULT_MAX_SIZE   = 256;
+
+    private static final SharedPropertiesCache     INSTANCE           = new SharedPropertiesCache();
+
+    private final Map<String, Map<Object, Object>> cache;
+    private volatile int                           maxSize            = DEFAULT_MAX_SIZE;
+
+    private long                                   hitCount;
+    private long                                   missCount;
+    private long                                   evictionCount;
+
+    private SharedPropertiesCache() {
+        cache = new LinkedHashMap<String, Map<Object, Object>>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<Object, Object>> eldest) {
+                if (size() > maxSize) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static SharedPropertiesCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * max number of parsed files kept in memory, the least recently used ones are evicted first
+     * @param maxSize
+     */
+    public void setMaxSize(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0, but was " + maxSize);
+        }
+        synchronized (cache) {
+            this.maxSize = maxSize;
+            while (cache.size() > maxSize) {
+                cache.remove(cache.keySet().iterator().next());
+                evictionCount++;
+            }
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the parsed content of the resource, this map is shared and read-only
+     * @throws IOException
+     */
+    public Map<Object, Object> getProperties(Resource resource, String fileEncoding, PropertiesPersister persister)
+                                                                                                                  throws IOException {
+        byte[] content = FileCopyUtils.copyToByteArray(resource.getInputStream());
+        String key = DigestUtils.md5DigestAsHex(content) + "|" + isXml(resource) + "|" + fileEncoding + "|"
+                     + persister.getClass().getName();
+        Map<Object, Object> properties = lookup(key);
+        if (properties == null) {
+            properties = parse(resource, new ByteArrayInputStream(content), fileEncoding, persister);
+            store(key, properties);
+        }
+        return properties;
+    }
+
+    /**
+     * removes all the entries and resets the statistics to zero
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+            hitCount = 0;
+            missCount = 0;
+            evictionCount = 0;
+        }
+    }
+
+    public Stats getStats() {
+        synchronized (cache) {
+            return new Stats(hitCount, missCount, evictionCount, cache.size());
+        }
+    }
+
+    private Map<Object, Object> lookup(String key) {
+        synchronized (cache) {
+            Map<Object, Object> properties = cache.get(key);
+            if (properties == null) {
+                missCount++;
+            } else {
+                hitCount++;
+            }
+            return properties;
+        }
+    }
+
+    private void store(String key, Map<Object, Object> properties) {
+        synchronized (cache) {
+            cache.put(key, properties);
+        }
+    }
+
+    private static boolean isXml(Resource resource) {
+        String filename = resource.getFilename();
+        return filename != null && filename.endsWith(XML_FILE_EXTENSION);
+    }
+
+    private static Map<Object, Object> parse(Resource resource, InputStream is, String fileEncoding,
+                                             PropertiesPersister persister) throws IOException {
+        Properties props = new Properties();
+        try {
+            if (isXml(resource)) {
+                persister.loadFromXml(props, is);
+            } else if (fileEncoding != null) {
+                persister.load(props, new InputStreamReader(is, fileEncoding));
+            } else {
+                persister.load(props, is);
+            }
+        } finally {
+            is.close();
+        }
+        return Collections.unmodifiableMap(new HashMap<Object, Object>(props));
+    }
+
+    /**
+     * point-in-time snapshot of the cache statistics
+     */
+    public static class Stats {
+
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final int  size;
+
+        public Stats(long hitCount, long missCount, long evictionCount, int size) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.size = size;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hitCount:%s, missCount:%s, evictionCount:%s, size:%s", hitCount, missCount,
+                                 evictionCount, size);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hellojavaer.spring.beans.ext.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.util.DefaultPropertiesPersister;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.PropertiesPersister;
+
+/**
+ * @author <a href="mailto:hellojavaer@gmail.com">zoukaiming</a>
+ */
+public class SharedPropertiesCacheTest {
+
+    private static final String   DEV_CONFIG = "biz/config/multienv/dev/config.properties";
+
+    private SharedPropertiesCache cache      = SharedPropertiesCache.getInstance();
+    private PropertiesPersister   persister  = new DefaultPropertiesPersister();
+    private int                   maxSize;
+    private File                  tempFile;
+
+    @Before
+    public void setUp() throws IOException {
+        maxSize = cache.getMaxSize();
+        cache.clear();
+        tempFile = File.createTempFile("config", ".properties");
+    }
+
+    @After
+    public void tearDown() {
+        cache.setMaxSize(maxSize);
+        cache.clear();
+        tempFile.delete();
+    }
+
+    @Test
+    public void testHitAndMiss() throws IOException {
+        write(tempFile, "env=dev");
+        Map<Object, Object> first = cache.getProperties(new FileSystemResource(tempFile), null, persister);
+        Map<Object, Object> second = cache.getProperties(new FileSystemResource(tempFile), null, persister);
+        assertEquals("dev", first.get("env"));
+        assertSame(first, second);
+        assertStats(1, 1, 0, 1);
+    }
+
+    @Test
+    public void testRewrite() throws IOException {
+        write(tempFile, "env=dev");
+        cache.getProperties(new FileSystemResource(tempFile), null, persister);
+        // same size and possibly the same mtime tick
+        write(tempFile, "env=pre");
+        assertEquals("pre", cache.getProperties(new FileSystemResource(tempFile), null, persister).get("env"));
+        write(tempFile, "env=online");
+        tempFile.setLastModified(tempFile.lastModified() + 2000);
+        assertEquals("online", cache.getProperties(new FileSystemResource(tempFile), null, persister).get("env"));
+        assertStats(0, 3, 0, 3);
+    }
+
+    @Test
+    public void testSameContentFromClasspathAndJar() throws IOException {
+        ClassPathResource classPathResource = new ClassPathResource(DEV_CONFIG);
+        byte[] content = FileCopyUtils.copyToByteArray(classPathResource.getInputStream());
+        File jarFile = File.createTempFile("config", ".jar");
+        try {
+            JarOutputStream jos = new JarOutputStream(new FileOutputStream(jarFile));
+            try {
+                jos.putNextEntry(new ZipEntry("config.properties"));
+                jos.write(content);
+                jos.closeEntry();
+            } finally {
+                jos.close();
+            }
+            UrlResource jarResource = new UrlResource("jar:" + jarFile.toURI().toURL() + "!/config.properties");
+            Map<Object, Object> first = cache.getProperties(classPathResource, null, persister);
+            Map<Object, Object> second = cache.getProperties(jarResource, null, persister);
+            assertSame(first, second);
+            assertStats(1, 1, 0, 1);
+        } finally {
+            jarFile.delete();
+        }
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        cache.setMaxSize(1);
+        write(tempFile, "env=dev");
+        cache.getProperties(new FileSystemResource(tempFile), null, persister);
+        write(tempFile, "env=online");
+        cache.getProperties(new FileSystemResource(tempFile), null, persister);
+        assertStats(0, 2, 1, 1);
+        write(tempFile, "env=dev");
+        cache.getProperties(new FileSystemResource(tempFile), null, persister);
+        assertStats(0, 3, 2, 1);
+    }
+
+    @Test
+    public void testClear() throws IOException {
+        write(tempFile, "env=dev");
+        cache.getProperties(new FileSystemResource(tempFile), null, persister);
+        cache.getProperties(new FileSystemResource(tempFile), null, persister);
+        cache.clear();
+        assertStats(0, 0, 0, 0);
+    }
+
+    @Test
+    public void testImmutable() throws IOException {
+        write(tempFile, "env=dev");
+        Map<Object, Object> properties = cache.getProperties(new FileSystemResource(tempFile), null, persister);
+        try {
+            properties.put("env", "pre");
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        assertEquals("dev", properties.get("env"));
+    }
+
+    @Test
+    public void testSharedAcrossContexts() {
+        ClassPathXmlApplicationContext first = new ClassPathXmlApplicationContext("/biz/spring/shared-cache-context.xml");
+        ClassPathXmlApplicationContext second = new ClassPathXmlApplicationContext("/biz/spring/shared-cache-context.xml");
+        try {
+            assertEquals("dev", first.getBean("env"));
+            assertEquals("dev", second.getBean("env"));
+            assertStats(1, 1, 0, 1);
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+
+    @Test
+    public void testResolvePlaceholderAtOnce() {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext(
+                                                                                    "/biz/spring/shared-cache-location-context.xml");
+        try {
+            assertEquals("pre", context.getBean("env"));
+            assertStats(0, 1, 0, 1);
+        } finally {
+            context.close();
+        }
+    }
+
+    private void assertStats(long hitCount, long missCount, long evictionCount, int size) {
+        SharedPropertiesCache.Stats stats = cache.getStats();
+        assertEquals("hitCount", hitCount, stats.getHitCount());
+        assertEquals("missCount", missCount, stats.getMissCount());
+        assertEquals("evictionCount", evictionCount, stats.getEvictionCount());
+        assertEquals("size", size, stats.getSize());
+    }
+
+    private static void write(File file, String content) throws IOException {
+        FileCopyUtils.copy(content.getBytes("ISO-8859-1"), file);
+    }
+}